@@ -0,0 +1,61 @@
+package br.com.ero.tests.swplanetapi.config;
+
+import br.com.ero.tests.swplanetapi.domain.PlanetRepository;
+import br.com.ero.tests.swplanetapi.domain.PlanetStore;
+import br.com.ero.tests.swplanetapi.domain.sharding.ShardedPlanetRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces the JPA planet repository with {@link ShardedPlanetRepository} when
+ * {@code planets.sharding.enabled} is set. The main datasource holds the name directory and
+ * {@code planets.sharding.urls} lists the shard databases.
+ *
+ * <p>The beans are always registered and read the flag when they are created, so the switch also
+ * works in the AOT-processed application, where conditions are frozen at build time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShardingConfiguration {
+
+    /**
+     * The {@code planets} table lives on the shards only, so Hibernate must not validate or create
+     * it on the main datasource.
+     */
+    @Bean
+    HibernatePropertiesCustomizer shardingSchemaCustomizer(@Value("${planets.sharding.enabled:false}") boolean enabled) {
+        return properties -> {
+            if (enabled) {
+                properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    PlanetStore planetStore(PlanetRepository planetRepository, JdbcTemplate jdbcTemplate,
+                            @Value("${planets.sharding.enabled:false}") boolean enabled,
+                            @Value("${planets.sharding.urls:}") List<String> urls,
+                            @Value("${planets.sharding.username:${spring.datasource.username:}}") String username,
+                            @Value("${planets.sharding.password:${spring.datasource.password:}}") String password,
+                            @Value("${planets.sharding.merge-buffer:256}") int mergeBuffer,
+                            @Value("${planets.sharding.query-threads:32}") int queryThreads) {
+        if (!enabled) {
+            return planetRepository;
+        }
+        List<DataSource> shards = urls.stream()
+                .map(url -> (DataSource) DataSourceBuilder.create().url(url).username(username).password(password).build())
+                .toList();
+        ShardedPlanetRepository shardedRepository = new ShardedPlanetRepository(jdbcTemplate, shards, mergeBuffer, queryThreads);
+        shardedRepository.initializeSchema();
+        return shardedRepository;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.ero.tests.swplanetapi.config;
+
+import br.com.ero.tests.swplanetapi.domain.PlanetService;
+import br.com.ero.tests.swplanetapi.domain.PlanetStore;
+import br.com.ero.tests.swplanetapi.web.PlanetController;
+import br.com.ero.tests.swplanetapi.web.PlanetResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Keeps the planet read path eager when {@code spring.main.lazy-initialization} is enabled,
+ * so the first request does not pay for building the persistence layer.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter planetPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                PlanetController.class,
+                PlanetResponseCache.class,
+                PlanetService.class,
+                PlanetStore.class,
+                EntityManagerFactory.class,
+                DataSource.class);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+public class CreateQueueFullException extends RuntimeException {
+
+  public CreateQueueFullException(int capacity) {
+    super("Create queue is full (" + capacity + " pending planets)");
+  }
+}
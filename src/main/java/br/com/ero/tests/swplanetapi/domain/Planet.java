@@ -3,9 +3,12 @@ package br.com.ero.tests.swplanetapi.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "planets")
+@DynamicUpdate
 public class Planet {
 
   @Id
@@ -20,6 +23,10 @@ public class Planet {
   @NotEmpty
   @Column(nullable = false)
   private String terrain;
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
 
   public Planet() {
   }
@@ -66,11 +73,17 @@ public class Planet {
   public void setTerrain(String terrain) {
     this.terrain = terrain;
   }
+  public Long getVersion() {
+    return version;
+  }
+  public void setVersion(Long version) {
+    this.version = version;
+  }
 
 
   @Override
   public boolean equals(Object obj){
-    return EqualsBuilder.reflectionEquals(obj, this);
+    return EqualsBuilder.reflectionEquals(obj, this, "version");
   }
 
 }
@@ -0,0 +1,7 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+/**
+ * Published by {@link PlanetService} after a write to the planets table has been committed.
+ */
+public record PlanetChangedEvent(Long id) {
+}
@@ -0,0 +1,227 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind planet creation: submitted planets are acknowledged with a ticket and a single writer
+ * thread saves them in group-commit batches, closed when {@code batch-size} planets are waiting or
+ * {@code max-delay-ms} has passed since the first one.
+ *
+ * <p>Each batch is saved in one transaction. Names already taken, or repeated within the batch, are
+ * reported as {@link PlanetCreation.Status#CONFLICT} for that item only; if the batch still hits the
+ * unique constraint (a concurrent synchronous create), its planets are retried one by one.
+ *
+ * <p>The bean always exists and {@code planets.async-create.enabled} is read at startup, so the flag
+ * also works on ahead-of-time processed builds; the writer thread only runs when it is enabled.
+ */
+@Service
+public class PlanetCreateQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(PlanetCreateQueue.class);
+
+  private final PlanetStore planetRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean enabled;
+  private final int capacity;
+  private final int batchSize;
+  private final long maxDelayNanos;
+  private final BlockingQueue<PendingCreate> queue;
+  private final Map<Long, PlanetCreation> creations;
+  private final AtomicLong tickets = new AtomicLong();
+  private volatile boolean running;
+  private Thread writer;
+
+  public PlanetCreateQueue(PlanetStore planetRepository, ApplicationEventPublisher eventPublisher,
+                           @Value("${planets.async-create.enabled:false}") boolean enabled,
+                           @Value("${planets.async-create.capacity:10000}") int capacity,
+                           @Value("${planets.async-create.batch-size:500}") int batchSize,
+                           @Value("${planets.async-create.max-delay-ms:10}") long maxDelayMillis,
+                           @Value("${planets.async-create.status-retention:100000}") int statusRetention) {
+    this.planetRepository = planetRepository;
+    this.eventPublisher = eventPublisher;
+    this.enabled = enabled;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.creations = Collections.synchronizedMap(new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, PlanetCreation> eldest) {
+        return size() > statusRetention;
+      }
+    });
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public PlanetCreation submit(Planet planet) {
+    if (!enabled) {
+      throw new IllegalStateException("Asynchronous create is disabled (planets.async-create.enabled)");
+    }
+    PlanetCreation creation = PlanetCreation.pending(tickets.incrementAndGet());
+    creations.put(creation.ticket(), creation);
+    if (!queue.offer(new PendingCreate(creation.ticket(), planet))) {
+      creations.remove(creation.ticket());
+      throw new CreateQueueFullException(capacity);
+    }
+    return creation;
+  }
+
+  public Optional<PlanetCreation> status(long ticket) {
+    return Optional.ofNullable(creations.get(ticket));
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    writer = new Thread(this::drain, "planet-create-writer");
+    writer.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (writer != null) {
+      writer.join();
+    }
+  }
+
+  private void drain() {
+    while (running || !queue.isEmpty()) {
+      try {
+        List<PendingCreate> batch = nextBatch();
+        if (!batch.isEmpty()) {
+          write(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("Planet create batch failed", e);
+      }
+    }
+  }
+
+  private List<PendingCreate> nextBatch() throws InterruptedException {
+    List<PendingCreate> batch = new ArrayList<>(batchSize);
+    PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return batch;
+    }
+    batch.add(first);
+    long deadline = System.nanoTime() + maxDelayNanos;
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= batchSize || remaining <= 0) {
+        break;
+      }
+      PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  void write(List<PendingCreate> batch) {
+    try {
+      writeBatch(batch);
+    } catch (RuntimeException e) {
+      for (PendingCreate pending : batch) {
+        PlanetCreation creation = creations.get(pending.ticket());
+        if (creation == null || creation.status() == PlanetCreation.Status.PENDING) {
+          complete(pending, PlanetCreation.Status.FAILED, null, e.getMessage());
+        }
+      }
+      throw e;
+    }
+  }
+
+  private void writeBatch(List<PendingCreate> batch) {
+    Map<String, PendingCreate> byName = new LinkedHashMap<>();
+    for (PendingCreate pending : batch) {
+      if (byName.putIfAbsent(key(pending.planet().getName()), pending) != null) {
+        conflict(pending);
+      }
+    }
+    Set<String> existing = planetRepository.findByNameIn(byName.values().stream().map(p -> p.planet().getName()).toList())
+            .stream().map(planet -> key(planet.getName())).collect(Collectors.toSet());
+    List<PendingCreate> toSave = new ArrayList<>(byName.size());
+    for (Map.Entry<String, PendingCreate> entry : byName.entrySet()) {
+      if (existing.contains(entry.getKey())) {
+        conflict(entry.getValue());
+      } else {
+        toSave.add(entry.getValue());
+      }
+    }
+    if (toSave.isEmpty()) {
+      return;
+    }
+
+    try {
+      planetRepository.saveAll(toSave.stream().map(PendingCreate::planet).toList());
+      toSave.forEach(this::created);
+    } catch (DataIntegrityViolationException e) {
+      toSave.forEach(this::writeOne);
+    }
+  }
+
+  private void writeOne(PendingCreate pending) {
+    pending.planet().setId(null);
+    pending.planet().setVersion(null);
+    try {
+      planetRepository.save(pending.planet());
+      created(pending);
+    } catch (DataIntegrityViolationException e) {
+      conflict(pending);
+    }
+  }
+
+  private void created(PendingCreate pending) {
+    complete(pending, PlanetCreation.Status.CREATED, pending.planet().getId(), null);
+    eventPublisher.publishEvent(new PlanetChangedEvent(pending.planet().getId()));
+  }
+
+  private void conflict(PendingCreate pending) {
+    complete(pending, PlanetCreation.Status.CONFLICT, null, "Planet name already exists: " + pending.planet().getName());
+  }
+
+  private void complete(PendingCreate pending, PlanetCreation.Status status, Long planetId, String message) {
+    creations.put(pending.ticket(), new PlanetCreation(pending.ticket(), status, planetId, message));
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  record PendingCreate(long ticket, Planet planet) {
+  }
+}
@@ -0,0 +1,15 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+/**
+ * Outcome of a create submitted to {@link PlanetCreateQueue}.
+ */
+public record PlanetCreation(long ticket, Status status, Long planetId, String message) {
+
+  public enum Status {
+    PENDING, CREATED, CONFLICT, FAILED
+  }
+
+  static PlanetCreation pending(long ticket) {
+    return new PlanetCreation(ticket, Status.PENDING, null, null);
+  }
+}
@@ -0,0 +1,25 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * Fields to change on a planet; {@code null} fields are left untouched.
+ */
+public record PlanetPatch(@Size(min = 1) String name, @Size(min = 1) String climate, @Size(min = 1) String terrain) {
+
+  public static PlanetPatch of(Planet planet) {
+    return new PlanetPatch(planet.getName(), planet.getClimate(), planet.getTerrain());
+  }
+
+  void applyTo(Planet planet) {
+    if (name != null) {
+      planet.setName(name);
+    }
+    if (climate != null) {
+      planet.setClimate(climate);
+    }
+    if (terrain != null) {
+      planet.setTerrain(terrain);
+    }
+  }
+}
@@ -5,13 +5,33 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface PlanetRepository  extends CrudRepository<Planet, Long>, QueryByExampleExecutor<Planet> {
+public interface PlanetRepository  extends CrudRepository<Planet, Long>, QueryByExampleExecutor<Planet>, PlanetRepositoryCustom, PlanetStore {
 
+    @Override
+    <S extends Planet> S save(S planet);
+
+    @Override
+    <S extends Planet> Iterable<S> saveAll(Iterable<S> planets);
+
+    @Override
+    Optional<Planet> findById(Long id);
+
+    @Override
+    boolean existsById(Long id);
+
+    @Override
+    void deleteById(Long id);
+
+    @Override
     Optional<Planet> findByName(String name);
 
+    @Override
+    List<Planet> findByNameIn(Collection<String> names);
+
     @Override
     <S extends  Planet> List<S> findAll(Example<S> example);
 
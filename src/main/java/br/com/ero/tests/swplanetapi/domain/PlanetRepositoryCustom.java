@@ -0,0 +1,12 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+public interface PlanetRepositoryCustom {
+
+    /**
+     * Applies the patch and increments the version in a single {@code UPDATE ... WHERE id = ? AND version = ?},
+     * writing only the patched columns.
+     *
+     * @return the number of updated rows, 0 when the planet does not exist or has another version
+     */
+    int updateIfVersion(Long id, long version, PlanetPatch patch);
+}
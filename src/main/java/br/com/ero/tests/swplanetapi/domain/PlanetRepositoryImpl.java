@@ -0,0 +1,34 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+public class PlanetRepositoryImpl implements PlanetRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateIfVersion(Long id, long version, PlanetPatch patch) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Planet> update = builder.createCriteriaUpdate(Planet.class);
+        Root<Planet> planet = update.from(Planet.class);
+        if (patch.name() != null) {
+            update.set(planet.<String>get("name"), patch.name());
+        }
+        if (patch.climate() != null) {
+            update.set(planet.<String>get("climate"), patch.climate());
+        }
+        if (patch.terrain() != null) {
+            update.set(planet.<String>get("terrain"), patch.terrain());
+        }
+        update.set(planet.<Long>get("version"), builder.sum(planet.<Long>get("version"), 1L));
+        update.where(builder.equal(planet.get("id"), id), builder.equal(planet.get("version"), version));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
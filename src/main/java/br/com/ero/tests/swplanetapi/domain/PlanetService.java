@@ -1,6 +1,8 @@
 package br.com.ero.tests.swplanetapi.domain;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.stereotype.Service;
 
@@ -10,14 +12,18 @@ import java.util.Optional;
 @Service
 public class PlanetService {
 
-  private PlanetRepository planetRepository;
+  private PlanetStore planetRepository;
+  private ApplicationEventPublisher eventPublisher;
 
-  public PlanetService(PlanetRepository planetRepository) {
+  public PlanetService(PlanetStore planetRepository, ApplicationEventPublisher eventPublisher) {
     this.planetRepository = planetRepository;
+    this.eventPublisher = eventPublisher;
   }
 
   public Planet create(Planet planet) {
-    return planetRepository.save(planet);
+    Planet planetCreated = planetRepository.save(planet);
+    eventPublisher.publishEvent(new PlanetChangedEvent(planetCreated.getId()));
+    return planetCreated;
   }
 
   public Optional<Planet> get(Long id) {
@@ -33,7 +39,33 @@ public class PlanetService {
     return planetRepository.findAll(query);
   }
 
+  public Optional<Planet> update(Long id, PlanetPatch patch) {
+    return planetRepository.findById(id).map(planet -> {
+      patch.applyTo(planet);
+      Planet planetUpdated = planetRepository.save(planet);
+      eventPublisher.publishEvent(new PlanetChangedEvent(id));
+      return planetUpdated;
+    });
+  }
+
+  /**
+   * Updates the planet only if it still has the given version, without reading it first.
+   *
+   * @return the new version
+   */
+  public long updateIfMatch(Long id, long version, PlanetPatch patch) {
+    if (planetRepository.updateIfVersion(id, version, patch) == 0) {
+      if (!planetRepository.existsById(id)) {
+        throw new EmptyResultDataAccessException("No planet with id " + id, 1);
+      }
+      throw new OptimisticLockingFailureException("Planet " + id + " is not at version " + version);
+    }
+    eventPublisher.publishEvent(new PlanetChangedEvent(id));
+    return version + 1;
+  }
+
   public void remove(Long id) {
       planetRepository.deleteById(id);
+      eventPublisher.publishEvent(new PlanetChangedEvent(id));
   }
 }
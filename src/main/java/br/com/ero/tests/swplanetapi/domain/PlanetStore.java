@@ -0,0 +1,30 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+import org.springframework.data.domain.Example;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The planet persistence operations used by {@link PlanetService} and {@link PlanetCreateQueue},
+ * implemented by the JPA {@link PlanetRepository} and by the sharded repository.
+ */
+public interface PlanetStore extends PlanetRepositoryCustom {
+
+    <S extends Planet> S save(S planet);
+
+    <S extends Planet> Iterable<S> saveAll(Iterable<S> planets);
+
+    Optional<Planet> findById(Long id);
+
+    boolean existsById(Long id);
+
+    Optional<Planet> findByName(String name);
+
+    List<Planet> findByNameIn(Collection<String> names);
+
+    <S extends Planet> List<S> findAll(Example<S> example);
+
+    void deleteById(Long id);
+}
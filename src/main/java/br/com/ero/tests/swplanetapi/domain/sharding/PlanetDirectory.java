@@ -0,0 +1,72 @@
+package br.com.ero.tests.swplanetapi.domain.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Global name to id directory for sharded planets. It allocates planet ids and, through its unique
+ * name column, keeps names unique across shards.
+ */
+class PlanetDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    PlanetDirectory(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    void initializeSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS planet_directory ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL UNIQUE)");
+    }
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException if the name is taken
+     */
+    long register(String name) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement statement = con.prepareStatement("INSERT INTO planet_directory (name) VALUES (?)", new String[]{"id"});
+            statement.setString(1, name);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    void rename(long id, String name) {
+        jdbcTemplate.update("UPDATE planet_directory SET name = ? WHERE id = ?", name, id);
+    }
+
+    void remove(long id) {
+        jdbcTemplate.update("DELETE FROM planet_directory WHERE id = ?", id);
+    }
+
+    Optional<Long> idOf(String name) {
+        return jdbcTemplate.queryForList("SELECT id FROM planet_directory WHERE name = ?", Long.class, name)
+                .stream().findFirst();
+    }
+
+    Optional<String> nameOf(long id) {
+        return jdbcTemplate.queryForList("SELECT name FROM planet_directory WHERE id = ?", String.class, id)
+                .stream().findFirst();
+    }
+
+    List<Long> idsOf(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList("SELECT id FROM planet_directory WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names), Long.class);
+    }
+}
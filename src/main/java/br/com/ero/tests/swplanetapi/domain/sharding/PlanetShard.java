@@ -0,0 +1,124 @@
+package br.com.ero.tests.swplanetapi.domain.sharding;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetPatch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@code planets} table of one shard. Ids are assigned by {@link PlanetDirectory}.
+ */
+class PlanetShard {
+
+    private static final String COLUMNS = "id, name, climate, terrain, version";
+
+    private static final RowMapper<Planet> PLANET_ROW_MAPPER = (rs, rowNum) -> {
+        Planet planet = new Planet(rs.getLong("id"), rs.getString("name"), rs.getString("climate"), rs.getString("terrain"));
+        planet.setVersion(rs.getLong("version"));
+        return planet;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    PlanetShard(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    void initializeSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS planets ("
+                + "id BIGINT PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL UNIQUE, "
+                + "climate VARCHAR(255) NOT NULL, "
+                + "terrain VARCHAR(255) NOT NULL, "
+                + "version BIGINT NOT NULL DEFAULT 0)");
+    }
+
+    void insert(Planet planet) {
+        jdbcTemplate.update("INSERT INTO planets (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)",
+                planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(), planet.getVersion());
+    }
+
+    Optional<Planet> find(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM planets WHERE id = ?", PLANET_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    List<Planet> findAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query("SELECT " + COLUMNS + " FROM planets WHERE id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", ids), PLANET_ROW_MAPPER);
+    }
+
+    boolean exists(long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM planets WHERE id = ?", Long.class, id) > 0;
+    }
+
+    long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM planets", Long.class);
+    }
+
+    /**
+     * Reads up to {@code limit} planets matching the case-insensitive filters with an id greater than
+     * {@code afterId}, in id order; {@code null} filters match all and a {@code null} id starts at the
+     * beginning. Each page is one short query, so no connection is held between pages.
+     */
+    List<Planet> page(String name, String climate, String terrain, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM planets WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(5);
+        appendFilter(sql, args, "name", name);
+        appendFilter(sql, args, "climate", climate);
+        appendFilter(sql, args, "terrain", terrain);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), PLANET_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * @return the number of updated rows, 0 when the planet does not exist or has another version
+     */
+    int update(long id, long version, PlanetPatch patch) {
+        StringBuilder sql = new StringBuilder("UPDATE planets SET version = version + 1");
+        List<Object> args = new ArrayList<>(5);
+        appendAssignment(sql, args, "name", patch.name());
+        appendAssignment(sql, args, "climate", patch.climate());
+        appendAssignment(sql, args, "terrain", patch.terrain());
+        sql.append(" WHERE id = ? AND version = ?");
+        args.add(id);
+        args.add(version);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    int delete(long id) {
+        return jdbcTemplate.update("DELETE FROM planets WHERE id = ?", id);
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, String column, String value) {
+        if (value != null) {
+            sql.append(" AND LOWER(").append(column).append(") = LOWER(?)");
+            args.add(value);
+        }
+    }
+
+    private static void appendAssignment(StringBuilder sql, List<Object> args, String column, String value) {
+        if (value != null) {
+            sql.append(", ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package br.com.ero.tests.swplanetapi.domain.sharding;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetPatch;
+import br.com.ero.tests.swplanetapi.domain.PlanetStore;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * {@link PlanetStore} spread over N databases. Rows are placed by a hash of their id; ids come
+ * from {@link PlanetDirectory}, which also resolves names so {@code findByName} touches one shard.
+ *
+ * <p>Example queries read every shard in keyset pages of {@code mergeBuffer} rows
+ * ({@code WHERE id > ? ORDER BY id LIMIT ?}) and the calling thread merges them by id. First pages
+ * are read in parallel on the query pool; every page is a single short query, so no connection is
+ * held while waiting for another and at most one page per shard is buffered. Only probes built by
+ * {@code QueryBuilder} are supported: non-null name, climate and terrain are matched ignoring case.
+ */
+public class ShardedPlanetRepository implements PlanetStore, AutoCloseable {
+
+    private final PlanetDirectory directory;
+    private final List<DataSource> dataSources;
+    private final List<PlanetShard> shards;
+    private final int mergeBuffer;
+    private final ExecutorService executor;
+
+    public ShardedPlanetRepository(JdbcTemplate directory, List<DataSource> shards, int mergeBuffer, int queryThreads) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required (planets.sharding.urls)");
+        }
+        this.directory = new PlanetDirectory(directory);
+        this.dataSources = List.copyOf(shards);
+        this.shards = shards.stream().map(PlanetShard::new).toList();
+        this.mergeBuffer = mergeBuffer;
+        this.executor = Executors.newFixedThreadPool(queryThreads, daemonThreads());
+    }
+
+    public void initializeSchema() {
+        directory.initializeSchema();
+        shards.forEach(PlanetShard::initializeSchema);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    static int shardIndex(long id, int shardCount) {
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+
+    private PlanetShard shardOf(long id) {
+        return shards.get(shardIndex(id, shards.size()));
+    }
+
+    @Override
+    public <S extends Planet> S save(S planet) {
+        Optional<Planet> current = planet.getId() == null ? Optional.empty() : shardOf(planet.getId()).find(planet.getId());
+        if (current.isEmpty()) {
+            return insert(planet);
+        }
+        long version = planet.getVersion() != null ? planet.getVersion() : current.get().getVersion();
+        if (update(planet.getId(), version, PlanetPatch.of(planet), current.get().getName()) == 0) {
+            throw new OptimisticLockingFailureException("Planet " + planet.getId() + " is not at version " + version);
+        }
+        planet.setVersion(version + 1);
+        return planet;
+    }
+
+    private <S extends Planet> S insert(S planet) {
+        long id = directory.register(planet.getName());
+        planet.setId(id);
+        planet.setVersion(0L);
+        try {
+            shardOf(id).insert(planet);
+        } catch (RuntimeException e) {
+            directory.remove(id);
+            planet.setId(null);
+            planet.setVersion(null);
+            throw e;
+        }
+        return planet;
+    }
+
+    @Override
+    public int updateIfVersion(Long id, long version, PlanetPatch patch) {
+        String currentName = null;
+        if (patch.name() != null) {
+            Optional<String> name = directory.nameOf(id);
+            if (name.isEmpty()) {
+                return 0;
+            }
+            currentName = name.get();
+        }
+        return update(id, version, patch, currentName);
+    }
+
+    /**
+     * Moves the name in the directory first, so a taken name fails before the shard is touched,
+     * and moves it back when the shard update does not happen.
+     */
+    private int update(long id, long version, PlanetPatch patch, String currentName) {
+        boolean renamed = patch.name() != null && !patch.name().equals(currentName);
+        if (renamed) {
+            directory.rename(id, patch.name());
+        }
+        int updated;
+        try {
+            updated = shardOf(id).update(id, version, patch);
+        } catch (RuntimeException e) {
+            if (renamed) {
+                directory.rename(id, currentName);
+            }
+            throw e;
+        }
+        if (updated == 0 && renamed) {
+            directory.rename(id, currentName);
+        }
+        return updated;
+    }
+
+    /**
+     * Inserts new planets all or nothing, like the JPA repository's transaction: when one fails,
+     * the ones already inserted are deleted and get their id and version cleared before rethrowing.
+     * Planets that already have an id are updated through {@link #save(Planet)} as they come.
+     */
+    @Override
+    public <S extends Planet> Iterable<S> saveAll(Iterable<S> planets) {
+        List<S> saved = new ArrayList<>();
+        List<S> inserted = new ArrayList<>();
+        try {
+            for (S planet : planets) {
+                boolean isNew = planet.getId() == null;
+                saved.add(save(planet));
+                if (isNew) {
+                    inserted.add(planet);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (S planet : inserted) {
+                deleteById(planet.getId());
+                planet.setId(null);
+                planet.setVersion(null);
+            }
+            throw e;
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Planet> findById(Long id) {
+        return shardOf(id).find(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return shardOf(id).exists(id);
+    }
+
+    @Override
+    public Optional<Planet> findByName(String name) {
+        return directory.idOf(name).flatMap(this::findById);
+    }
+
+    @Override
+    public List<Planet> findByNameIn(Collection<String> names) {
+        Map<PlanetShard, List<Long>> idsByShard = directory.idsOf(names).stream()
+                .collect(Collectors.groupingBy(this::shardOf));
+        return idsByShard.entrySet().stream()
+                .flatMap(entry -> entry.getKey().findAll(entry.getValue()).stream())
+                .sorted(Comparator.comparing(Planet::getId))
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Planet> List<S> findAll(Example<S> example) {
+        S probe = example.getProbe();
+        return (List<S>) merge(probe.getName(), probe.getClimate(), probe.getTerrain());
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shardOf(id).delete(id);
+        directory.remove(id);
+    }
+
+    public long count() {
+        return shards.stream().mapToLong(PlanetShard::count).sum();
+    }
+
+    /**
+     * Stops the query threads and closes the shard data sources that are closeable.
+     */
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the first page of every shard in parallel, the first one on the calling thread, then
+     * k-way merges them by id, reading each shard's next page as its current one runs out.
+     */
+    private List<Planet> merge(String name, String climate, String terrain) {
+        List<Future<List<Planet>>> firstPages = new ArrayList<>(shards.size() - 1);
+        for (PlanetShard shard : shards.subList(1, shards.size())) {
+            firstPages.add(executor.submit(() -> shard.page(name, climate, terrain, null, mergeBuffer)));
+        }
+        try {
+            PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(shards.size(), Comparator.comparing(cursor -> cursor.head().getId()));
+            ShardCursor first = new ShardCursor(shards.get(0), name, climate, terrain,
+                    shards.get(0).page(name, climate, terrain, null, mergeBuffer));
+            if (first.hasHead()) {
+                cursors.add(first);
+            }
+            for (int i = 0; i < firstPages.size(); i++) {
+                ShardCursor cursor = new ShardCursor(shards.get(i + 1), name, climate, terrain, await(firstPages.get(i)));
+                if (cursor.hasHead()) {
+                    cursors.add(cursor);
+                }
+            }
+
+            List<Planet> planets = new ArrayList<>();
+            while (!cursors.isEmpty()) {
+                ShardCursor cursor = cursors.poll();
+                planets.add(cursor.head());
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+            return planets;
+        } finally {
+            firstPages.forEach(page -> page.cancel(false));
+        }
+    }
+
+    private static List<Planet> await(Future<List<Planet>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while reading shards");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "planet-shard-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One shard's position in a merge: the page being consumed and the keyset to read the next one.
+     */
+    private final class ShardCursor {
+
+        private final PlanetShard shard;
+        private final String name;
+        private final String climate;
+        private final String terrain;
+        private List<Planet> page;
+        private int index;
+
+        ShardCursor(PlanetShard shard, String name, String climate, String terrain, List<Planet> page) {
+            this.shard = shard;
+            this.name = name;
+            this.climate = climate;
+            this.terrain = terrain;
+            this.page = page;
+        }
+
+        boolean hasHead() {
+            return index < page.size();
+        }
+
+        Planet head() {
+            return page.get(index);
+        }
+
+        /**
+         * Moves past the head, reading the next page when the current one is used up.
+         *
+         * @return whether there is a new head
+         */
+        boolean advance() {
+            index++;
+            if (index == page.size() && page.size() == mergeBuffer) {
+                page = shard.page(name, climate, terrain, page.get(page.size() - 1).getId(), mergeBuffer);
+                index = 0;
+            }
+            return hasHead();
+        }
+    }
+}
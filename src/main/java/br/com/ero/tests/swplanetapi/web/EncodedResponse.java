@@ -0,0 +1,130 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body encoded once, plus its gzip variant when it reaches the size threshold
+ * and compressing pays off.
+ */
+public final class EncodedResponse {
+
+    private final MediaType mediaType;
+    private final byte[] body;
+    private final byte[] gzip;
+    private final String eTag;
+
+    EncodedResponse(MediaType mediaType, byte[] body, int gzipMinSize) {
+        this(mediaType, body, gzipMinSize, null);
+    }
+
+    EncodedResponse(MediaType mediaType, byte[] body, int gzipMinSize, String eTag) {
+        this.mediaType = mediaType;
+        this.body = body;
+        this.gzip = body.length >= gzipMinSize ? gzip(body) : null;
+        this.eTag = eTag;
+    }
+
+    /**
+     * The ETag of a planet version. It is weak because every media type and content encoding of
+     * the same version shares it, and {@code If-Match} only needs the version back.
+     */
+    static String versionETag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = this.body;
+        response.setContentType(mediaType.toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        if (gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = gzip;
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Bytes held by this response, counting the gzip variant when there is one.
+     */
+    int size() {
+        return body.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    String eTag() {
+        return eTag;
+    }
+
+    byte[] gzip() {
+        return gzip;
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: an explicit {@code gzip} coding wins over
+     * {@code *}, and either only counts with a quality above zero.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < bytes.length ? compressed : null;
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Encoders and decoders for the planet representations the API can produce, in order of preference.
+ *
+ * <p>Protobuf uses the schema in {@code planet.proto}; lists are wrapped in a {@code PlanetList} message.
+ */
+@Component
+public class PlanetCodecs {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf("application/x-protobuf");
+
+    private static final TypeReference<List<Planet>> PLANET_LIST = new TypeReference<>() {
+    };
+
+    private final Map<MediaType, Codec> codecs = new LinkedHashMap<>();
+    private final ProtobufSchema planetSchema;
+
+    public PlanetCodecs(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ProtobufSchema schema = loadSchema();
+        this.planetSchema = schema.withRootType("Planet");
+
+        codecs.put(MediaType.APPLICATION_JSON, new Codec(objectMapperBuilder.build()));
+        codecs.put(MediaType.APPLICATION_CBOR, new Codec(objectMapperBuilder.factory(new CBORFactory()).build()));
+        codecs.put(APPLICATION_SMILE, new Codec(objectMapperBuilder.factory(new SmileFactory()).build()));
+        codecs.put(APPLICATION_PROTOBUF, new Codec(objectMapperBuilder.factory(new ProtobufFactory()).build(),
+                planetSchema, schema.withRootType("PlanetList")));
+    }
+
+    public List<MediaType> getMediaTypes() {
+        return new ArrayList<>(codecs.keySet());
+    }
+
+    public Codec get(MediaType mediaType) {
+        return codecs.get(mediaType);
+    }
+
+    /**
+     * Picks the supported media type with the highest quality among the acceptable types, which
+     * are expected to be sorted by specificity. Each supported type takes the quality of the most
+     * specific acceptable type including it, so {@code q=0} excludes it; ties go to the type the
+     * client listed first, then to this class's order of preference.
+     */
+    public Optional<MediaType> select(List<MediaType> acceptableMediaTypes) {
+        MediaType selected = null;
+        double selectedQuality = 0;
+        int selectedIndex = Integer.MAX_VALUE;
+        for (MediaType supported : codecs.keySet()) {
+            for (int i = 0; i < acceptableMediaTypes.size(); i++) {
+                MediaType acceptable = acceptableMediaTypes.get(i);
+                if (acceptable.includes(supported)) {
+                    double quality = acceptable.getQualityValue();
+                    if (quality > selectedQuality || (quality > 0 && quality == selectedQuality && i < selectedIndex)) {
+                        selected = supported;
+                        selectedQuality = quality;
+                        selectedIndex = i;
+                    }
+                    break;
+                }
+            }
+        }
+        return Optional.ofNullable(selected);
+    }
+
+    ProtobufSchema getPlanetSchema() {
+        return planetSchema;
+    }
+
+    private static ProtobufSchema loadSchema() {
+        try (InputStream proto = new ClassPathResource("planet.proto").getInputStream()) {
+            return ProtobufSchemaLoader.std.load(proto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class Codec {
+
+        private final ObjectWriter planetWriter;
+        private final ObjectWriter listWriter;
+        private final ObjectReader planetReader;
+        private final ObjectReader listReader;
+        private final boolean wrapsLists;
+
+        Codec(ObjectMapper objectMapper) {
+            this.planetWriter = objectMapper.writerFor(Planet.class);
+            this.listWriter = objectMapper.writerFor(PLANET_LIST);
+            this.planetReader = objectMapper.readerFor(Planet.class);
+            this.listReader = objectMapper.readerFor(PLANET_LIST);
+            this.wrapsLists = false;
+        }
+
+        Codec(ObjectMapper objectMapper, ProtobufSchema planetSchema, ProtobufSchema listSchema) {
+            this.planetWriter = objectMapper.writerFor(Planet.class).with(planetSchema);
+            this.listWriter = objectMapper.writerFor(PlanetList.class).with(listSchema);
+            this.planetReader = objectMapper.readerFor(Planet.class).with(planetSchema);
+            this.listReader = objectMapper.readerFor(PlanetList.class).with(listSchema);
+            this.wrapsLists = true;
+        }
+
+        public byte[] writePlanet(Planet planet) throws IOException {
+            return planetWriter.writeValueAsBytes(planet);
+        }
+
+        public byte[] writeList(List<Planet> planets) throws IOException {
+            return listWriter.writeValueAsBytes(wrapsLists ? new PlanetList(planets) : planets);
+        }
+
+        public Planet readPlanet(byte[] bytes) throws IOException {
+            return planetReader.readValue(bytes);
+        }
+
+        public List<Planet> readList(byte[] bytes) throws IOException {
+            if (wrapsLists) {
+                return listReader.<PlanetList>readValue(bytes).planets();
+            }
+            return listReader.readValue(bytes);
+        }
+    }
+
+    record PlanetList(List<Planet> planets) {
+    }
+}
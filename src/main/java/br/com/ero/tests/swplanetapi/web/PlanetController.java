@@ -1,34 +1,85 @@
 package br.com.ero.tests.swplanetapi.web;
 
 import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetCreateQueue;
+import br.com.ero.tests.swplanetapi.domain.PlanetCreation;
+import br.com.ero.tests.swplanetapi.domain.PlanetPatch;
 import br.com.ero.tests.swplanetapi.domain.PlanetService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/planets")
 public class PlanetController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+
     @Autowired
     private PlanetService planetService;
 
+    @Autowired
+    private PlanetResponseCache planetResponseCache;
+
+    @Autowired
+    private PlanetCodecs planetCodecs;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private PlanetCreateQueue planetCreateQueue;
+
     @PostMapping
-    public ResponseEntity<Planet> create(@RequestBody @Valid Planet planet) {
+    public ResponseEntity<?> create(@RequestBody @Valid Planet planet,
+                                    @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (planetCreateQueue.isEnabled() && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            PlanetCreation creation = planetCreateQueue.submit(planet);
+            URI status = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/creations/{ticket}").buildAndExpand(creation.ticket()).toUri();
+            return ResponseEntity.accepted().location(status).body(creation);
+        }
         Planet planetCreated = planetService.create(planet);
         return ResponseEntity.status(HttpStatus.CREATED).body(planetCreated);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Planet> get(@PathVariable("id") Long id) {
-        return planetService.get(id).map(planet -> ResponseEntity.ok(planet))
+    @GetMapping("/creations/{ticket}")
+    public ResponseEntity<PlanetCreation> creation(@PathVariable("ticket") Long ticket) {
+        if (!planetCreateQueue.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return planetCreateQueue.status(ticket).map(creation -> ResponseEntity.ok(creation))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}")
+    public void get(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        MediaType mediaType = negotiate(request);
+        Optional<EncodedResponse> planet = planetResponseCache.planet(id, mediaType, () -> planetService.get(id));
+        if (planet.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        planet.get().writeTo(request, response);
+    }
+
     @GetMapping("/name/{name}")
     public ResponseEntity<Planet> getByName(@PathVariable("name") String name) {
         return planetService.getByName(name).map(planet -> ResponseEntity.ok(planet))
@@ -36,9 +87,24 @@ public class PlanetController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Planet>> list(@RequestParam(required = false) String terrain, @RequestParam(required = false) String climate) {
-        List<Planet> planets = planetService.list(terrain, climate);
-        return ResponseEntity.ok(planets);
+    public void list(@RequestParam(required = false) String terrain, @RequestParam(required = false) String climate,
+                     HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        MediaType mediaType = negotiate(request);
+        planetResponseCache.list(terrain, climate, mediaType, () -> planetService.list(terrain, climate))
+                .writeTo(request, response);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Planet> replace(@PathVariable("id") Long id, @RequestBody @Valid Planet planet,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return update(id, PlanetPatch.of(planet), ifMatch);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Planet> patch(@PathVariable("id") Long id, @RequestBody @Valid PlanetPatch patch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return update(id, patch, ifMatch);
     }
 
     @DeleteMapping("/{id}")
@@ -47,4 +113,36 @@ public class PlanetController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * With {@code If-Match} the update is a single conditional statement and only the new ETag is returned;
+     * otherwise the planet is read, changed and returned.
+     */
+    private ResponseEntity<Planet> update(Long id, PlanetPatch patch, String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            long version = planetService.updateIfMatch(id, parseVersion(ifMatch), patch);
+            return ResponseEntity.noContent().eTag(EncodedResponse.versionETag(version)).build();
+        }
+        return planetService.update(id, patch)
+                .map(planet -> ResponseEntity.ok().eTag(EncodedResponse.versionETag(planet.getVersion())).body(planet))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static long parseVersion(String eTag) {
+        String version = eTag.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        try {
+            return Long.parseLong(version.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("ETag " + eTag + " does not match any planet version");
+        }
+    }
+
+    private MediaType negotiate(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> acceptable = contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+        return planetCodecs.select(acceptable)
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(planetCodecs.getMediaTypes()));
+    }
+
 }
@@ -0,0 +1,47 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes single {@link Planet} bodies as {@code application/x-protobuf}, so create and
+ * lookup by name speak the same encoding as the cached get and list responses.
+ */
+public class PlanetProtobufHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    private final ProtobufSchema planetSchema;
+
+    public PlanetProtobufHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder, PlanetCodecs planetCodecs) {
+        super(objectMapperBuilder.factory(new ProtobufFactory()).build(), PlanetCodecs.APPLICATION_PROTOBUF);
+        this.planetSchema = planetCodecs.getPlanetSchema();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return Planet.class.equals(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return Planet.class.equals(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(planetSchema);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        return writer.with(planetSchema);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the encoded bodies of {@code GET /planets/{id}} and {@code GET /planets} responses per
+ * media type, so hot reads skip both the database and serialization.
+ *
+ * <p>Entries are weighed by their encoded bytes (identity plus gzip body) and the whole cache is kept
+ * under {@code planets.response-cache.max-size}; when it is full Caffeine evicts by its size-based
+ * policy (W-TinyLFU), favoring frequently read entries. Entries are dropped on every
+ * {@link PlanetChangedEvent}. A load that races with an invalidation is served but not kept.
+ */
+@Component
+public class PlanetResponseCache {
+
+    private final PlanetCodecs planetCodecs;
+    private final int gzipMinSize;
+    private final Map<CacheKey, EncodedResponse> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PlanetResponseCache(PlanetCodecs planetCodecs,
+                               @Value("${planets.response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${planets.response-cache.gzip-min-size:256}") int gzipMinSize) {
+        this.planetCodecs = planetCodecs;
+        this.gzipMinSize = gzipMinSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((CacheKey key, EncodedResponse response) -> response.size())
+                .executor(Runnable::run)
+                .<CacheKey, EncodedResponse>build()
+                .asMap();
+    }
+
+    public Optional<EncodedResponse> planet(Long id, MediaType mediaType, Supplier<Optional<Planet>> loader) {
+        PlanetKey key = new PlanetKey(id, mediaType);
+        EncodedResponse cached = entries.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        return loader.get().map(planet -> store(key, encode(mediaType, planet), loadedAt));
+    }
+
+    public EncodedResponse list(String terrain, String climate, MediaType mediaType, Supplier<List<Planet>> loader) {
+        ListKey key = new ListKey(normalize(terrain), normalize(climate), mediaType);
+        EncodedResponse cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        return store(key, encode(mediaType, loader.get()), loadedAt);
+    }
+
+    @EventListener
+    public void onPlanetChanged(PlanetChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.id() != null) {
+            for (MediaType mediaType : planetCodecs.getMediaTypes()) {
+                entries.remove(new PlanetKey(event.id(), mediaType));
+            }
+        }
+        entries.keySet().removeIf(ListKey.class::isInstance);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private EncodedResponse store(CacheKey key, EncodedResponse response, long loadedAt) {
+        entries.put(key, response);
+        if (generation.get() != loadedAt) {
+            entries.remove(key, response);
+        }
+        return response;
+    }
+
+    private EncodedResponse encode(MediaType mediaType, Planet planet) {
+        try {
+            String eTag = planet.getVersion() == null ? null : EncodedResponse.versionETag(planet.getVersion());
+            return new EncodedResponse(mediaType, planetCodecs.get(mediaType).writePlanet(planet), gzipMinSize, eTag);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EncodedResponse encode(MediaType mediaType, List<Planet> planets) {
+        try {
+            return new EncodedResponse(mediaType, planetCodecs.get(mediaType).writeList(planets), gzipMinSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String normalize(String filter) {
+        return filter == null ? null : filter.toLowerCase(Locale.ROOT);
+    }
+
+    private sealed interface CacheKey permits PlanetKey, ListKey {
+    }
+
+    private record PlanetKey(Long id, MediaType mediaType) implements CacheKey {
+    }
+
+    private record ListKey(String terrain, String climate, MediaType mediaType) implements CacheKey {
+    }
+}
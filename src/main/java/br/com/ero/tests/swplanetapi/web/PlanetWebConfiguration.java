@@ -0,0 +1,28 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+public class PlanetWebConfiguration implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    private final PlanetCodecs planetCodecs;
+
+    public PlanetWebConfiguration(Jackson2ObjectMapperBuilder objectMapperBuilder, PlanetCodecs planetCodecs) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.planetCodecs = planetCodecs;
+    }
+
+    /**
+     * Appended after the default converters so JSON stays the answer for wildcard {@code Accept} headers.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PlanetProtobufHttpMessageConverter(objectMapperBuilder, planetCodecs));
+    }
+}
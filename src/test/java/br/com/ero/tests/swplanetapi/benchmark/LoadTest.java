@@ -0,0 +1,258 @@
+package br.com.ero.tests.swplanetapi.benchmark;
+
+import br.com.ero.tests.swplanetapi.SwPlanetApiApplication;
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-rate HTTP load test against the real application, with the {@code prod} profile, running on
+ * an in-memory H2 database.
+ *
+ * <p>The workers together send {@code loadtest.rate} requests per second, each on its own fixed
+ * schedule, picking the next request from the production traffic mix: 90% get by id or name, 8%
+ * filtered or unfiltered list and 2% create or remove. Latency is measured from the time a request
+ * was scheduled to be sent, not from when a worker got around to sending it, so a server stall
+ * counts against every request that should have gone out meanwhile (no coordinated omission).
+ * Latencies are recorded in microseconds; the percentile distribution of each operation is written
+ * to {@code target/loadtest/<operation>.hgrm}.
+ *
+ * <p>Configured with system properties, see the {@code load-test} Maven profile:
+ * {@code loadtest.rows}, {@code loadtest.rate}, {@code loadtest.threads},
+ * {@code loadtest.warmup-seconds}, {@code loadtest.duration-seconds} and {@code loadtest.max-p99-ms}
+ * (0 disables the check). {@code loadtest.threads} only needs to cover the concurrency the rate
+ * requires at the expected latency.
+ */
+public class LoadTest {
+
+    enum Operation {
+        GET(200), GET_BY_NAME(200), LIST(200), CREATE(201), REMOVE(204);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final int rows;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadTest(String baseUrl, int rows) {
+        this.baseUrl = baseUrl;
+        this.rows = rows;
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("loadtest.rows", 10_000);
+        int rate = Integer.getInteger("loadtest.rate", 1_000);
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+        long durationSeconds = Long.getLong("loadtest.duration-seconds", 30);
+        long maxP99Millis = Long.getLong("loadtest.max-p99-ms", 0);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SwPlanetApiApplication.class)
+                .profiles("prod", "loadtest")
+                .properties("server.port=0")
+                .run(args)) {
+            PlanetDataGenerator.seed(context.getBean(JdbcTemplate.class), rows);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            LoadTest loadTest = new LoadTest(baseUrl, rows);
+            System.out.printf("rows=%d rate=%d/s threads=%d warmup=%ds duration=%ds%n",
+                    rows, rate, threads, warmupSeconds, durationSeconds);
+            System.out.println("fixed-rate schedule, latency measured from intended send time (coordinated omission corrected)");
+            loadTest.run(rate, threads, TimeUnit.SECONDS.toNanos(warmupSeconds), TimeUnit.SECONDS.toNanos(durationSeconds));
+            loadTest.report(durationSeconds, maxP99Millis, new File("target/loadtest"));
+        }
+    }
+
+    void run(int rate, int threads, long warmupNanos, long durationNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(threads) / rate;
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            long firstSend = start + intervalNanos * i / threads;
+            Thread worker = new Thread(() -> work(firstSend, intervalNanos, measureFrom, end), "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    void report(long durationSeconds, long maxP99Millis, File outputDirectory) throws IOException {
+        outputDirectory.mkdirs();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%-12s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long operationErrors = errors.get(operation).get();
+            printRow(operation.name(), histogram, operationErrors, durationSeconds);
+            try (PrintStream out = new PrintStream(new File(outputDirectory, operation.name().toLowerCase() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        printRow("TOTAL", total, totalErrors, durationSeconds);
+
+        double p99Millis = total.getValueAtPercentile(99) / 1000.0;
+        if (totalErrors > 0) {
+            throw new IllegalStateException(totalErrors + " requests failed");
+        }
+        if (maxP99Millis > 0 && p99Millis > maxP99Millis) {
+            throw new IllegalStateException("p99 latency " + p99Millis + "ms is above " + maxP99Millis + "ms");
+        }
+    }
+
+    /**
+     * Sends one request every {@code intervalNanos}, starting at {@code firstSend}. A worker that falls
+     * behind sends immediately until it catches up, and each latency includes the time spent behind.
+     */
+    private void work(long firstSend, long intervalNanos, long measureFrom, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long intended = firstSend; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = nextOperation(random.nextInt(100));
+            HttpRequest request = request(operation, random);
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long latencyMicros = (System.nanoTime() - intended) / 1000;
+                if (response.statusCode() != operation.expectedStatus) {
+                    errors.get(operation).incrementAndGet();
+                } else if (operation == Operation.CREATE) {
+                    created.add(objectMapper.readValue(response.body(), Planet.class).getId());
+                }
+                if (intended >= measureFrom) {
+                    histograms.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                }
+            } catch (IOException e) {
+                errors.get(operation).incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Operation nextOperation(int roll) {
+        if (roll < 45) {
+            return Operation.GET;
+        }
+        if (roll < 90) {
+            return Operation.GET_BY_NAME;
+        }
+        if (roll < 98) {
+            return Operation.LIST;
+        }
+        if (roll < 99 || created.isEmpty()) {
+            return Operation.CREATE;
+        }
+        return Operation.REMOVE;
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        Planet planet = PlanetDataGenerator.planet(random.nextLong(1, rows + 1));
+        return switch (operation) {
+            case GET -> get("/planets/" + planet.getId());
+            case GET_BY_NAME -> get("/planets/name/" + planet.getName());
+            case LIST -> get(listPath(planet, random.nextInt(4)));
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/planets"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(createBody(planet)))
+                    .build();
+            case REMOVE -> removeCreated();
+        };
+    }
+
+    private HttpRequest removeCreated() {
+        Long id = created.poll();
+        // another worker took the last created planet; removing a missing id still answers 204
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/planets/" + (id == null ? 0 : id))).DELETE().build();
+    }
+
+    private String createBody(Planet planet) {
+        try {
+            return objectMapper.writeValueAsString(
+                    new Planet("LoadTest-" + sequence.incrementAndGet(), planet.getClimate(), planet.getTerrain()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String listPath(Planet planet, int filters) {
+        return switch (filters) {
+            case 0 -> "/planets";
+            case 1 -> "/planets?climate=" + encode(planet.getClimate());
+            case 2 -> "/planets?terrain=" + encode(planet.getTerrain());
+            default -> "/planets?climate=" + encode(planet.getClimate()) + "&terrain=" + encode(planet.getTerrain());
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, long durationSeconds) {
+        System.out.printf("%-12s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) durationSeconds,
+                errors,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
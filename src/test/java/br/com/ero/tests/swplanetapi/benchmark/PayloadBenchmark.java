@@ -0,0 +1,68 @@
+package br.com.ero.tests.swplanetapi.benchmark;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.web.PlanetCodecs;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares payload size and encode/decode time of every {@link PlanetCodecs} media type for a
+ * {@code GET /planets} list.
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/lib/* br.com.ero.tests.swplanetapi.benchmark.PayloadBenchmark [planets] [iterations]
+ * </pre>
+ */
+public class PayloadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        List<Planet> planets = PlanetDataGenerator.planets(size);
+        PlanetCodecs planetCodecs = new PlanetCodecs(new Jackson2ObjectMapperBuilder());
+
+        System.out.printf("%d planets, %d iterations%n", size, iterations);
+        System.out.printf("%-28s %10s %10s %12s %12s%n", "media type", "bytes", "gzip", "encode(ms)", "decode(ms)");
+        for (MediaType mediaType : planetCodecs.getMediaTypes()) {
+            PlanetCodecs.Codec codec = planetCodecs.get(mediaType);
+            byte[] body = codec.writeList(planets);
+
+            long[] encode = new long[iterations];
+            long[] decode = new long[iterations];
+            for (int i = 0; i < iterations * 2; i++) {
+                long start = System.nanoTime();
+                codec.writeList(planets);
+                long encoded = System.nanoTime();
+                codec.readList(body);
+                long decoded = System.nanoTime();
+                if (i >= iterations) {
+                    encode[i - iterations] = encoded - start;
+                    decode[i - iterations] = decoded - encoded;
+                }
+            }
+
+            System.out.printf("%-28s %10d %10d %12.2f %12.2f%n", mediaType, body.length, gzip(body).length,
+                    median(encode) / 1e6, median(decode) / 1e6);
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
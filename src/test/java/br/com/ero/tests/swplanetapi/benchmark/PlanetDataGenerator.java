@@ -0,0 +1,45 @@
+package br.com.ero.tests.swplanetapi.benchmark;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic planets for benchmarks: planet {@code i} is always named {@code Planet-i}.
+ */
+public class PlanetDataGenerator {
+
+    static final String[] CLIMATES = {"arid", "temperate", "tropical", "frozen", "murky", "humid"};
+    static final String[] TERRAINS = {"desert", "grasslands, mountains", "jungle, rainforests", "tundra, ice caves",
+            "swamp, jungles", "gas giant", "forests, mountains, lakes", "cityscape"};
+
+    private static final int BATCH_SIZE = 1_000;
+
+    public static Planet planet(long i) {
+        return new Planet(i, "Planet-" + i, CLIMATES[(int) (i % CLIMATES.length)], TERRAINS[(int) (i % TERRAINS.length)]);
+    }
+
+    public static List<Planet> planets(int size) {
+        List<Planet> planets = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            planets.add(planet(i));
+        }
+        return planets;
+    }
+
+    /**
+     * Inserts planets {@code 1..rows} in batches; on an empty table their generated ids match.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        for (int from = 1; from <= rows; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (long i = from; i < from + BATCH_SIZE && i <= rows; i++) {
+                Planet planet = planet(i);
+                batch.add(new Object[]{planet.getName(), planet.getClimate(), planet.getTerrain()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO planets (name, climate, terrain) VALUES (?, ?, ?)", batch);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.ero.tests.swplanetapi.benchmark;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.QueryBuilder;
+import br.com.ero.tests.swplanetapi.domain.sharding.ShardedPlanetRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.Example;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures {@code GET /planets/{id}} and filtered {@code GET /planets} throughput of
+ * {@link ShardedPlanetRepository} over 1 to {@code maxShards} in-memory H2 shards.
+ *
+ * <pre>
+ * java -cp "target/test-classes:target/classes:target/lib/*" br.com.ero.tests.swplanetapi.benchmark.ShardingBenchmark [rows] [maxShards] [threads] [seconds]
+ * </pre>
+ */
+public class ShardingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int maxShards = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        Example<Planet> listQuery = QueryBuilder.makeQuery(new Planet(null, "desert"));
+
+        System.out.printf("%d planets, %d threads, %ds per run%n", rows, threads, seconds);
+        System.out.printf("%-8s %12s %12s %12s%n", "shards", "get/s", "list/s", "list rows");
+        for (int shardCount = 1; shardCount <= maxShards; shardCount *= 2) {
+            List<DataSource> shards = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(h2("bench-shard" + shardCount + "-" + i));
+            }
+            try (HikariDataSource directory = h2("bench-directory" + shardCount);
+                 ShardedPlanetRepository planetRepository =
+                         new ShardedPlanetRepository(new JdbcTemplate(directory), shards, 256, threads * shardCount)) {
+                planetRepository.initializeSchema();
+                List<Long> ids = new ArrayList<>(rows);
+                for (Planet planet : PlanetDataGenerator.planets(rows)) {
+                    ids.add(planetRepository.save(planet).getId());
+                }
+
+                double gets = run(threads, seconds,
+                        () -> planetRepository.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size()))));
+                double lists = run(threads, seconds, () -> planetRepository.findAll(listQuery));
+                System.out.printf("%-8d %12.0f %12.1f %12d%n", shardCount, gets, lists,
+                        planetRepository.findAll(listQuery).size());
+            }
+        }
+    }
+
+    private static double run(int threads, int seconds, Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder operations = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                    operations.increment();
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        return operations.sum() / (double) seconds;
+    }
+
+    /**
+     * A connection pool with Hikari's default size, as the application would configure it.
+     */
+    private static HikariDataSource h2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return pool;
+    }
+}
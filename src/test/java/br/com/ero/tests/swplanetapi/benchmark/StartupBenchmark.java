@@ -0,0 +1,99 @@
+package br.com.ero.tests.swplanetapi.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures time-to-first-successful {@code GET /planets/{id}} for the default build and for the
+ * {@code fast-startup} build (AOT + CDS + prod profile).
+ *
+ * <p>The baseline is the jar of a plain {@code ./mvnw package}, copied aside before building with
+ * {@code -Pfast-startup} (which replaces it). Run against a database that already holds the planet:
+ * <pre>
+ * ./mvnw clean package &amp;&amp; mkdir target/default &amp;&amp; cp target/sw-planet-api-0.0.1-SNAPSHOT.jar target/default/
+ * ./mvnw package -Pfast-startup
+ * java -cp target/test-classes br.com.ero.tests.swplanetapi.benchmark.StartupBenchmark [runs] [planetId] [baselineJar]
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        long planetId = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        File target = new File("target");
+        String finalName = "sw-planet-api-0.0.1-SNAPSHOT";
+        File baselineJar = new File(args.length > 2 ? args[2] : "target/default/" + finalName + ".jar");
+        if (!baselineJar.isFile()) {
+            throw new IllegalArgumentException("Baseline jar not found: " + baselineJar + " (build it with a plain ./mvnw package)");
+        }
+
+        measure("default", runs, planetId, List.of("-jar", baselineJar.getPath()));
+        measure("fast-startup", runs, planetId, List.of(
+                "-XX:SharedArchiveFile=" + new File(target, finalName + ".jsa").getPath(),
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=prod",
+                "-jar", new File(target, finalName + ".jar").getPath()));
+    }
+
+    private static void measure(String variant, int runs, long planetId, List<String> jvmArgs) throws Exception {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            samples.add(timeToFirstGet(planetId, jvmArgs));
+        }
+        Collections.sort(samples);
+        System.out.printf("%-13s runs=%d min=%dms median=%dms max=%dms%n",
+                variant, runs, samples.get(0), samples.get(samples.size() / 2), samples.get(samples.size() - 1));
+    }
+
+    private static long timeToFirstGet(long planetId, List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-Dserver.port=" + port);
+        command.addAll(jvmArgs);
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/planets/" + planetId)).build();
+
+        long start = System.nanoTime();
+        Process app = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!app.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + app.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful GET within " + TIMEOUT);
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
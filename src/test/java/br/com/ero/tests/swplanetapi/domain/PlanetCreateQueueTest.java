@@ -0,0 +1,185 @@
+package br.com.ero.tests.swplanetapi.domain;
+
+import br.com.ero.tests.swplanetapi.domain.PlanetCreateQueue.PendingCreate;
+import br.com.ero.tests.swplanetapi.domain.sharding.ShardedPlanetRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetCreateQueueTest {
+
+  @Mock
+  private PlanetRepository planetRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private PlanetCreateQueue planetCreateQueue;
+
+  @BeforeEach
+  public void beforeEach() {
+    planetCreateQueue = new PlanetCreateQueue(planetRepository, eventPublisher, true, 1, 10, 10, 100);
+  }
+
+  @Test
+  public void submitPlanet_ReturnsPendingTicket() {
+    PlanetCreation sut = planetCreateQueue.submit(new Planet("Hoth", "frozen", "tundra"));
+
+    assertThat(sut.status()).isEqualTo(PlanetCreation.Status.PENDING);
+    assertThat(planetCreateQueue.status(sut.ticket())).contains(sut);
+  }
+
+  @Test
+  public void submitPlanet_WithFullQueue_ThrowsException() {
+    planetCreateQueue.submit(new Planet("Hoth", "frozen", "tundra"));
+
+    assertThatThrownBy(() -> planetCreateQueue.submit(new Planet("Endor", "temperate", "forests")))
+            .isInstanceOf(CreateQueueFullException.class);
+  }
+
+  @Test
+  public void writeBatch_WithNewNames_SavesAllInOneCall() {
+    when(planetRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+    when(planetRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+    planetCreateQueue.write(List.of(pending(1, "Hoth"), pending(2, "Endor")));
+
+    verify(planetRepository, times(1)).saveAll(anyList());
+    verify(planetRepository, never()).save(any());
+    assertThat(planetCreateQueue.status(1)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CREATED);
+    assertThat(planetCreateQueue.status(2)).get().extracting(PlanetCreation::planetId).isNotNull();
+    verify(eventPublisher, times(2)).publishEvent(any(PlanetChangedEvent.class));
+  }
+
+  @Test
+  public void writeBatch_WithExistingAndRepeatedNames_ReportsConflictPerItem() {
+    when(planetRepository.findByNameIn(anyCollection())).thenReturn(List.of(new Planet(9L, "Tatooine", "arid", "desert")));
+    when(planetRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+    planetCreateQueue.write(List.of(pending(1, "tatooine"), pending(2, "Hoth"), pending(3, "Hoth")));
+
+    assertThat(planetCreateQueue.status(1)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CONFLICT);
+    assertThat(planetCreateQueue.status(2)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CREATED);
+    assertThat(planetCreateQueue.status(3)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CONFLICT);
+  }
+
+  @Test
+  public void writeBatch_HittingUniqueConstraint_RetriesOneByOne() {
+    when(planetRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+    when(planetRepository.saveAll(anyList())).thenThrow(DataIntegrityViolationException.class);
+    when(planetRepository.save(any())).thenAnswer(invocation -> {
+      Planet planet = invocation.getArgument(0);
+      if (planet.getName().equals("Endor")) {
+        throw new DataIntegrityViolationException("duplicate");
+      }
+      planet.setId(7L);
+      return planet;
+    });
+
+    planetCreateQueue.write(List.of(pending(1, "Hoth"), pending(2, "Endor")));
+
+    assertThat(planetCreateQueue.status(1)).contains(new PlanetCreation(1, PlanetCreation.Status.CREATED, 7L, null));
+    assertThat(planetCreateQueue.status(2)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CONFLICT);
+    verify(eventPublisher, times(1)).publishEvent(new PlanetChangedEvent(7L));
+  }
+
+  @Test
+  public void writeBatch_WithUnavailableDatabase_FailsEveryTicket() {
+    PlanetCreation creation = planetCreateQueue.submit(new Planet("Hoth", "frozen", "tundra"));
+    when(planetRepository.findByNameIn(anyCollection())).thenThrow(new DataAccessResourceFailureException("down"));
+
+    assertThatThrownBy(() -> planetCreateQueue.write(List.of(new PendingCreate(creation.ticket(), new Planet("Hoth", "frozen", "tundra")))))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+    assertThat(planetCreateQueue.status(creation.ticket())).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.FAILED);
+  }
+
+  @Test
+  public void writeBatch_FailingDuringRetry_KeepsCompletedAndFailsRemainingTickets() {
+    when(planetRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+    when(planetRepository.saveAll(anyList())).thenThrow(DataIntegrityViolationException.class);
+    when(planetRepository.save(any())).thenAnswer(invocation -> {
+      Planet planet = invocation.getArgument(0);
+      if (planet.getName().equals("Endor")) {
+        throw new DataAccessResourceFailureException("down");
+      }
+      planet.setId(7L);
+      return planet;
+    });
+
+    assertThatThrownBy(() -> planetCreateQueue.write(List.of(pending(1, "Hoth"), pending(2, "Endor"), pending(3, "Naboo"))))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+    assertThat(planetCreateQueue.status(1)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CREATED);
+    assertThat(planetCreateQueue.status(2)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.FAILED);
+    assertThat(planetCreateQueue.status(3)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.FAILED);
+  }
+
+  @Test
+  public void writeBatch_OnShardsHittingUniqueConstraint_CreatesOthersWithIds() throws Exception {
+    try (HikariDataSource directory = h2("directory");
+         ShardedPlanetRepository shardedRepository = new ShardedPlanetRepository(new JdbcTemplate(directory),
+                 List.<DataSource>of(h2("shard0"), h2("shard1")), 256, 1)) {
+      shardedRepository.initializeSchema();
+      shardedRepository.save(new Planet("Hoth", "frozen", "tundra"));
+      ShardedPlanetRepository racingRepository = spy(shardedRepository);
+      doReturn(List.of()).when(racingRepository).findByNameIn(anyCollection());
+      PlanetCreateQueue shardedQueue = new PlanetCreateQueue(racingRepository, eventPublisher, true, 1, 10, 10, 100);
+
+      shardedQueue.write(List.of(pending(1, "Endor"), pending(2, "Naboo"), pending(3, "Hoth")));
+
+      Long endorId = shardedRepository.findByName("Endor").map(Planet::getId).orElseThrow();
+      Long nabooId = shardedRepository.findByName("Naboo").map(Planet::getId).orElseThrow();
+      assertThat(shardedQueue.status(1)).contains(new PlanetCreation(1, PlanetCreation.Status.CREATED, endorId, null));
+      assertThat(shardedQueue.status(2)).contains(new PlanetCreation(2, PlanetCreation.Status.CREATED, nabooId, null));
+      assertThat(shardedQueue.status(3)).get().extracting(PlanetCreation::status).isEqualTo(PlanetCreation.Status.CONFLICT);
+      assertThat(shardedRepository.count()).isEqualTo(3);
+      verify(eventPublisher).publishEvent(new PlanetChangedEvent(endorId));
+      verify(eventPublisher).publishEvent(new PlanetChangedEvent(nabooId));
+      verifyNoMoreInteractions(eventPublisher);
+    }
+  }
+
+  @Test
+  public void submitPlanet_WhenDisabled_ThrowsException() {
+    PlanetCreateQueue disabledQueue = new PlanetCreateQueue(planetRepository, eventPublisher, false, 1, 10, 10, 100);
+
+    assertThatThrownBy(() -> disabledQueue.submit(new Planet("Hoth", "frozen", "tundra")))
+            .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static PendingCreate pending(long ticket, String name) {
+    return new PendingCreate(ticket, new Planet(name, "climate", "terrain"));
+  }
+
+  private static List<Planet> assignIds(List<Planet> planets) {
+    long id = 100;
+    for (Planet planet : planets) {
+      planet.setId(id++);
+    }
+    return planets;
+  }
+
+  private static HikariDataSource h2(String name) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    return pool;
+  }
+}
@@ -31,6 +31,7 @@ public class PlanetRepositoryTest {
   @AfterEach
   public void afterEach() {
     PLANET.setId(null);
+    PLANET.setVersion(null);
   }
 
   @Test
@@ -100,6 +101,14 @@ public class PlanetRepositoryTest {
     assertThat(sut).isEmpty();
   }
 
+  @Sql(scripts = "/import_planets.sql")
+  @Test
+  public void getPlanets_ByNames_ReturnsOnlyExistingPlanets() {
+    List<Planet> sut = planetRepository.findByNameIn(List.of(TATOOINE.getName(), "errorName"));
+
+    assertThat(sut).containsExactly(TATOOINE);
+  }
+
   @Sql(scripts = "/import_planets.sql")
   @Test
   public void listPlanets_ReturnsFilteredPlanets() {
@@ -126,6 +135,32 @@ public class PlanetRepositoryTest {
     assertThat(response).isEmpty();
   }
 
+  @Test
+  public void updatePlanet_WithCurrentVersion_UpdatesPatchedFieldsAndVersion() {
+    Planet planet = testEntityManager.persistFlushFind(PLANET);
+    Long version = planet.getVersion();
+
+    int sut = planetRepository.updateIfVersion(planet.getId(), version, new PlanetPatch(null, "frozen", null));
+
+    testEntityManager.clear();
+    Planet updatedPlanet = testEntityManager.find(Planet.class, planet.getId());
+    assertThat(sut).isEqualTo(1);
+    assertThat(updatedPlanet.getClimate()).isEqualTo("frozen");
+    assertThat(updatedPlanet.getName()).isEqualTo(PLANET.getName());
+    assertThat(updatedPlanet.getVersion()).isEqualTo(version + 1);
+  }
+
+  @Test
+  public void updatePlanet_WithStaleVersion_UpdatesNothing() {
+    Planet planet = testEntityManager.persistFlushFind(PLANET);
+
+    int sut = planetRepository.updateIfVersion(planet.getId(), planet.getVersion() + 1, new PlanetPatch(null, "frozen", null));
+
+    testEntityManager.clear();
+    assertThat(sut).isEqualTo(0);
+    assertThat(testEntityManager.find(Planet.class, planet.getId()).getClimate()).isEqualTo(PLANET.getClimate());
+  }
+
   @Test
   public void removePlanet_WithExistingId_RemovesPlanetFromDataBase() {
     Planet planet = testEntityManager.persistFlushFind(PLANET);
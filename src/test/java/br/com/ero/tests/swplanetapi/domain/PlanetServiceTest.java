@@ -5,7 +5,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 
 import java.util.ArrayList;
@@ -29,6 +31,9 @@ public class PlanetServiceTest {
     @Mock
     private PlanetRepository planetRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Test
     public void createPlanet_withValidData_ReturnsPlanet() {
         when(planetRepository.save(PLANET)).thenReturn(PLANET);
@@ -36,6 +41,7 @@ public class PlanetServiceTest {
         Planet sut = planetService.create(PLANET);
 
         assertThat(sut).isEqualTo(PLANET);
+        verify(eventPublisher).publishEvent(new PlanetChangedEvent(PLANET.getId()));
     }
 
     @Test
@@ -107,15 +113,72 @@ public class PlanetServiceTest {
         assertThat(sut).isEmpty();
     }
 
+    @Test
+    public void updatePlanet_ByExistingId_ReturnsUpdatedPlanet() {
+        Planet planet = new Planet(1L, "name", "climate", "terrain");
+        when(planetRepository.findById(1L)).thenReturn(Optional.of(planet));
+        when(planetRepository.save(planet)).thenReturn(planet);
+
+        Optional<Planet> sut = planetService.update(1L, new PlanetPatch(null, "frozen", null));
+
+        assertThat(sut).isNotEmpty();
+        assertThat(sut.get().getClimate()).isEqualTo("frozen");
+        assertThat(sut.get().getName()).isEqualTo("name");
+        verify(eventPublisher).publishEvent(new PlanetChangedEvent(1L));
+    }
+
+    @Test
+    public void updatePlanet_ByNonExistingId_ReturnsEmpty() {
+        when(planetRepository.findById(2L)).thenReturn(Optional.empty());
+
+        Optional<Planet> sut = planetService.update(2L, new PlanetPatch(null, "frozen", null));
+
+        assertThat(sut).isEmpty();
+        verify(planetRepository, never()).save(any());
+    }
+
+    @Test
+    public void updatePlanet_IfMatchingVersion_ReturnsNextVersion() {
+        PlanetPatch patch = new PlanetPatch(null, "frozen", null);
+        when(planetRepository.updateIfVersion(1L, 3L, patch)).thenReturn(1);
+
+        long sut = planetService.updateIfMatch(1L, 3L, patch);
+
+        assertThat(sut).isEqualTo(4L);
+        verify(planetRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new PlanetChangedEvent(1L));
+    }
+
+    @Test
+    public void updatePlanet_IfNotMatchingVersion_ThrowsException() {
+        PlanetPatch patch = new PlanetPatch(null, "frozen", null);
+        when(planetRepository.updateIfVersion(1L, 3L, patch)).thenReturn(0);
+        when(planetRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> planetService.updateIfMatch(1L, 3L, patch)).isInstanceOf(OptimisticLockingFailureException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void updatePlanet_IfMatchingNonExistingId_ThrowsException() {
+        PlanetPatch patch = new PlanetPatch(null, "frozen", null);
+        when(planetRepository.updateIfVersion(2L, 3L, patch)).thenReturn(0);
+        when(planetRepository.existsById(2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> planetService.updateIfMatch(2L, 3L, patch)).isInstanceOf(EmptyResultDataAccessException.class);
+    }
+
     @Test
     public void removePlanet_WithExistingId_doesNotThrowAnyException() {
        assertThatCode(() -> planetService.remove(1L)).doesNotThrowAnyException();
+       verify(eventPublisher).publishEvent(new PlanetChangedEvent(1L));
     }
 
     @Test
     public void removePlanet_WithNonExistingId_ThrowsException() {
         doThrow(new EmptyResultDataAccessException(1)).when(planetRepository).deleteById(99L);
         assertThatThrownBy(() -> planetService.remove(99L)).isInstanceOf(RuntimeException.class);
+        verifyNoInteractions(eventPublisher);
     }
 
 }
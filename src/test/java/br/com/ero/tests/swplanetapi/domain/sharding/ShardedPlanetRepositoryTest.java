@@ -0,0 +1,245 @@
+package br.com.ero.tests.swplanetapi.domain.sharding;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetPatch;
+import br.com.ero.tests.swplanetapi.domain.QueryBuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardedPlanetRepositoryTest {
+
+  private static final int SHARDS = 3;
+
+  private final List<HikariDataSource> pools = new ArrayList<>();
+
+  private final List<JdbcTemplate> shards = new ArrayList<>();
+
+  private HikariDataSource directory;
+
+  private ShardedPlanetRepository planetRepository;
+
+  @BeforeEach
+  public void beforeEach() {
+    for (int i = 0; i < SHARDS; i++) {
+      HikariDataSource pool = h2("shard" + i);
+      pools.add(pool);
+      shards.add(new JdbcTemplate(pool));
+    }
+    directory = h2("directory");
+    planetRepository = new ShardedPlanetRepository(new JdbcTemplate(directory), List.copyOf(pools), 2, 1);
+    planetRepository.initializeSchema();
+  }
+
+  @AfterEach
+  public void afterEach() throws Exception {
+    planetRepository.close();
+    directory.close();
+  }
+
+  @Test
+  public void createPlanets_AssignsUniqueIdsAcrossShards() {
+    List<Planet> planets = createPlanets(30);
+
+    assertThat(planets).extracting(Planet::getId).doesNotHaveDuplicates().doesNotContainNull();
+    assertThat(planetRepository.count()).isEqualTo(30);
+    for (JdbcTemplate shard : shards) {
+      assertThat(shard.queryForObject("SELECT COUNT(*) FROM planets", Long.class)).isPositive();
+    }
+  }
+
+  @Test
+  public void createPlanet_WithExistingName_ThrowsExceptionAndKeepsOriginal() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+
+    assertThatThrownBy(() -> planetRepository.save(new Planet("Hoth", "arid", "desert")))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(planetRepository.count()).isEqualTo(1);
+    assertThat(planetRepository.findByName("Hoth")).contains(planet);
+  }
+
+  @Test
+  public void getPlanet_ByIdAndName_ReturnsPlanet() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+
+    assertThat(planetRepository.findById(planet.getId())).contains(planet);
+    assertThat(planetRepository.findByName("Hoth")).contains(planet);
+    assertThat(planetRepository.findByName("Endor")).isEmpty();
+    assertThat(planetRepository.findById(planet.getId() + 1000)).isEmpty();
+  }
+
+  @Test
+  public void getPlanets_ByNames_ReturnsPlanetsFromAllShards() {
+    List<Planet> planets = createPlanets(10);
+
+    List<Planet> sut = planetRepository.findByNameIn(List.of(planets.get(1).getName(), planets.get(7).getName(), "errorName"));
+
+    assertThat(sut).containsExactly(planets.get(1), planets.get(7));
+  }
+
+  @Test
+  public void listPlanets_MergesAllShardsInIdOrder() {
+    List<Planet> planets = createPlanets(25);
+
+    List<Planet> sut = planetRepository.findAll(QueryBuilder.makeQuery(new Planet()));
+
+    assertThat(sut).containsExactlyElementsOf(planets);
+  }
+
+  @Test
+  public void listPlanets_WithFilters_ReturnsMatchingPlanetsIgnoringCase() {
+    List<Planet> planets = createPlanets(25);
+
+    List<Planet> sut = planetRepository.findAll(QueryBuilder.makeQuery(new Planet("ARID", null)));
+
+    assertThat(sut).isNotEmpty()
+            .isSortedAccordingTo(Comparator.comparing(Planet::getId))
+            .containsExactlyElementsOf(planets.stream().filter(planet -> planet.getClimate().equals("arid")).toList());
+  }
+
+  @Test
+  public void updatePlanet_IfMatchingVersionWithNewName_MovesNameInDirectory() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+
+    int sut = planetRepository.updateIfVersion(planet.getId(), 0, new PlanetPatch("Hoth II", null, null));
+
+    assertThat(sut).isEqualTo(1);
+    assertThat(planetRepository.findByName("Hoth")).isEmpty();
+    Planet updatedPlanet = planetRepository.findByName("Hoth II").orElseThrow();
+    assertThat(updatedPlanet.getClimate()).isEqualTo("frozen");
+    assertThat(updatedPlanet.getVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  public void updatePlanet_IfNotMatchingVersion_KeepsPlanetAndName() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+
+    int sut = planetRepository.updateIfVersion(planet.getId(), 5, new PlanetPatch("Hoth II", "arid", null));
+
+    assertThat(sut).isEqualTo(0);
+    assertThat(planetRepository.findByName("Hoth")).contains(planet);
+    assertThat(planetRepository.findByName("Hoth II")).isEmpty();
+  }
+
+  @Test
+  public void createPlanets_WithExistingName_ThrowsExceptionAndCreatesNone() {
+    planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+    List<Planet> batch = List.of(new Planet("Endor", "temperate", "forests"), new Planet("Naboo", "temperate", "grassy hills"),
+            new Planet("Hoth", "arid", "desert"));
+
+    assertThatThrownBy(() -> planetRepository.saveAll(batch)).isInstanceOf(DataIntegrityViolationException.class);
+
+    assertThat(batch).allSatisfy(planet -> {
+      assertThat(planet.getId()).isNull();
+      assertThat(planet.getVersion()).isNull();
+    });
+    assertThat(planetRepository.count()).isEqualTo(1);
+    assertThat(planetRepository.findByNameIn(List.of("Endor", "Naboo"))).isEmpty();
+  }
+
+  @Test
+  public void updatePlanet_WithFailingShard_RestoresNameInDirectory() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+    JdbcTemplate shard = shards.get(ShardedPlanetRepository.shardIndex(planet.getId(), SHARDS));
+    shard.execute("ALTER TABLE planets RENAME TO planets_offline");
+
+    assertThatThrownBy(() -> planetRepository.updateIfVersion(planet.getId(), 0, new PlanetPatch("Hoth II", null, null)))
+            .isInstanceOf(DataAccessException.class);
+
+    shard.execute("ALTER TABLE planets_offline RENAME TO planets");
+    assertThat(planetRepository.findByName("Hoth")).contains(planet);
+    assertThat(planetRepository.findByName("Hoth II")).isEmpty();
+  }
+
+  @Test
+  public void listPlanets_ConcurrentlyOnSmallPools_CompletesEveryQueryAndReleasesConnections() throws Exception {
+    List<Planet> planets = createPlanets(60);
+    ExecutorService callers = Executors.newFixedThreadPool(24);
+    try {
+      List<Future<List<Planet>>> lists = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        lists.add(callers.submit(() -> planetRepository.findAll(QueryBuilder.makeQuery(new Planet()))));
+      }
+
+      for (Future<List<Planet>> list : lists) {
+        assertThat(list.get(60, TimeUnit.SECONDS)).containsExactlyElementsOf(planets);
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+    assertThat(pools).allSatisfy(pool -> assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero());
+  }
+
+  @Test
+  public void savePlanet_WithStaleVersion_ThrowsException() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+    Planet stale = new Planet(planet.getId(), "Hoth", "arid", "tundra");
+    stale.setVersion(0L);
+
+    planet.setClimate("temperate");
+    planetRepository.save(planet);
+
+    assertThat(planet.getVersion()).isEqualTo(1L);
+    assertThatThrownBy(() -> planetRepository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    assertThat(planetRepository.findById(planet.getId()).map(Planet::getClimate)).contains("temperate");
+  }
+
+  @Test
+  public void removePlanet_WithExistingId_RemovesPlanetAndName() {
+    Planet planet = planetRepository.save(new Planet("Hoth", "frozen", "tundra"));
+
+    planetRepository.deleteById(planet.getId());
+
+    assertThat(planetRepository.findById(planet.getId())).isEmpty();
+    assertThat(planetRepository.findByName("Hoth")).isEmpty();
+    assertThat(planetRepository.save(new Planet("Hoth", "frozen", "tundra")).getId()).isNotEqualTo(planet.getId());
+  }
+
+  @Test
+  public void shardIndex_SpreadsSequentialIdsEvenly() {
+    int[] counts = new int[4];
+    IntStream.rangeClosed(1, 4000).forEach(id -> counts[ShardedPlanetRepository.shardIndex(id, 4)]++);
+
+    assertThat(IntStream.of(counts)).allSatisfy(count -> assertThat(count).isBetween(900, 1100));
+  }
+
+  private List<Planet> createPlanets(int size) {
+    String[] climates = {"arid", "temperate", "frozen"};
+    List<Planet> planets = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      planets.add(planetRepository.save(new Planet("Planet-" + i, climates[i % climates.length], "terrain")));
+    }
+    return planets;
+  }
+
+  /**
+   * A two-connection pool that gives up quickly, so holding one connection while waiting for
+   * another fails the test instead of hanging it.
+   */
+  private static HikariDataSource h2(String name) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    pool.setMaximumPoolSize(2);
+    pool.setConnectionTimeout(2_000);
+    return pool;
+  }
+}
@@ -0,0 +1,62 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import br.com.ero.tests.swplanetapi.domain.Planet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.ero.tests.swplanetapi.common.PlanetConstants.PLANETS;
+import static br.com.ero.tests.swplanetapi.common.PlanetConstants.TATOOINE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetCodecsTest {
+
+  private final PlanetCodecs planetCodecs = new PlanetCodecs(new Jackson2ObjectMapperBuilder());
+
+  @Test
+  public void encodePlanet_InEverySupportedMediaType_DecodesSamePlanet() throws Exception {
+    for (MediaType mediaType : planetCodecs.getMediaTypes()) {
+      PlanetCodecs.Codec codec = planetCodecs.get(mediaType);
+
+      Planet sut = codec.readPlanet(codec.writePlanet(TATOOINE));
+
+      assertThat(sut).as(mediaType.toString()).isEqualTo(TATOOINE);
+    }
+  }
+
+  @Test
+  public void encodeList_InEverySupportedMediaType_DecodesSamePlanets() throws Exception {
+    for (MediaType mediaType : planetCodecs.getMediaTypes()) {
+      PlanetCodecs.Codec codec = planetCodecs.get(mediaType);
+
+      List<Planet> sut = codec.readList(codec.writeList(PLANETS));
+
+      assertThat(sut).as(mediaType.toString()).containsExactlyElementsOf(PLANETS);
+    }
+  }
+
+  @Test
+  public void selectMediaType_PrefersFirstAcceptableSupportedType() {
+    Optional<MediaType> any = planetCodecs.select(List.of(MediaType.ALL));
+    Optional<MediaType> cbor = planetCodecs.select(List.of(MediaType.APPLICATION_XML, MediaType.APPLICATION_CBOR));
+    Optional<MediaType> xml = planetCodecs.select(List.of(MediaType.APPLICATION_XML));
+
+    assertThat(any).contains(MediaType.APPLICATION_JSON);
+    assertThat(cbor).contains(MediaType.APPLICATION_CBOR);
+    assertThat(xml).isEmpty();
+  }
+
+  @Test
+  public void selectMediaType_HonorsQualityValues() {
+    Optional<MediaType> json = planetCodecs.select(MediaType.parseMediaTypes("application/cbor;q=0.5, application/json"));
+    Optional<MediaType> notJson = planetCodecs.select(MediaType.parseMediaTypes("application/json;q=0, */*"));
+    Optional<MediaType> none = planetCodecs.select(MediaType.parseMediaTypes("application/cbor;q=0"));
+
+    assertThat(json).contains(MediaType.APPLICATION_JSON);
+    assertThat(notJson).contains(MediaType.APPLICATION_CBOR);
+    assertThat(none).isEmpty();
+  }
+}
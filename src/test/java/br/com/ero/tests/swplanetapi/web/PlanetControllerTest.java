@@ -1,23 +1,32 @@
 package br.com.ero.tests.swplanetapi.web;
 
+import br.com.ero.tests.swplanetapi.domain.CreateQueueFullException;
 import br.com.ero.tests.swplanetapi.domain.Planet;
+import br.com.ero.tests.swplanetapi.domain.PlanetCreateQueue;
+import br.com.ero.tests.swplanetapi.domain.PlanetCreation;
+import br.com.ero.tests.swplanetapi.domain.PlanetPatch;
 import br.com.ero.tests.swplanetapi.domain.PlanetRepository;
 import br.com.ero.tests.swplanetapi.domain.PlanetService;
 import br.com.ero.tests.swplanetapi.domain.QueryBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.antlr.v4.runtime.atn.SemanticContext;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -25,14 +34,18 @@ import java.util.Optional;
 import static br.com.ero.tests.swplanetapi.common.PlanetConstants.PLANET;
 import static br.com.ero.tests.swplanetapi.common.PlanetConstants.PLANETS;
 import static br.com.ero.tests.swplanetapi.common.PlanetConstants.TATOOINE;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(PlanetController.class)
+@Import({PlanetResponseCache.class, PlanetCodecs.class})
 public class PlanetControllerTest {
 
   @Autowired
@@ -44,9 +57,23 @@ public class PlanetControllerTest {
   @MockBean
   private PlanetService planetService;
 
+  @MockBean
+  private PlanetCreateQueue planetCreateQueue;
+
   @Mock
   private PlanetRepository planetRepository;
 
+  @Autowired
+  private PlanetResponseCache planetResponseCache;
+
+  @Autowired
+  private PlanetCodecs planetCodecs;
+
+  @AfterEach
+  public void afterEach() {
+    planetResponseCache.invalidateAll();
+  }
+
   @Test
   public void createPlanet_WithValidData_ReturnsCreated() throws Exception {
     when(planetService.create(PLANET)).thenReturn(PLANET);
@@ -87,6 +114,68 @@ public class PlanetControllerTest {
 
   }
 
+  @Test
+  public void createPlanet_PreferringAsync_ReturnsAccepted() throws Exception {
+    when(planetCreateQueue.isEnabled()).thenReturn(true);
+    when(planetCreateQueue.submit(PLANET)).thenReturn(new PlanetCreation(1L, PlanetCreation.Status.PENDING, null, null));
+
+    mockMvc.perform(post("/planets")
+                    .content(objectMapper.writeValueAsString(PLANET))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Prefer", "respond-async"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/planets/creations/1"))
+            .andExpect(jsonPath("$.status").value("PENDING"));
+
+    verifyNoInteractions(planetService);
+  }
+
+  @Test
+  public void createPlanet_PreferringAsyncWithFullQueue_ReturnsServiceUnavailable() throws Exception {
+    when(planetCreateQueue.isEnabled()).thenReturn(true);
+    when(planetCreateQueue.submit(any())).thenThrow(new CreateQueueFullException(1));
+
+    mockMvc.perform(post("/planets")
+                    .content(objectMapper.writeValueAsString(PLANET))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Prefer", "respond-async"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+  }
+
+  @Test
+  public void createPlanet_PreferringAsyncWhenDisabled_CreatesSynchronously() throws Exception {
+    when(planetService.create(PLANET)).thenReturn(PLANET);
+
+    mockMvc.perform(post("/planets")
+                    .content(objectMapper.writeValueAsString(PLANET))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Prefer", "respond-async"))
+            .andExpect(status().isCreated());
+
+    verify(planetCreateQueue, never()).submit(any());
+  }
+
+  @Test
+  public void getCreation_ByExistingTicket_ReturnsStatus() throws Exception {
+    when(planetCreateQueue.isEnabled()).thenReturn(true);
+    when(planetCreateQueue.status(1L)).thenReturn(Optional.of(new PlanetCreation(1L, PlanetCreation.Status.CREATED, 5L, null)));
+
+    mockMvc.perform(get("/planets/creations/{ticket}", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("CREATED"))
+            .andExpect(jsonPath("$.planetId").value(5));
+  }
+
+  @Test
+  public void getCreation_ByNonExistingTicket_ReturnsNotFound() throws Exception {
+    when(planetCreateQueue.isEnabled()).thenReturn(true);
+    when(planetCreateQueue.status(2L)).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/planets/creations/{ticket}", 2))
+            .andExpect(status().isNotFound());
+  }
+
   @Test
   public void getPlanet_ByExistingId_ReturnsPlanet() throws Exception {
     when(planetService.get(1L)).thenReturn(Optional.of(PLANET));
@@ -171,6 +260,176 @@ public class PlanetControllerTest {
 
   }
 
+  @Test
+  public void getPlanet_ByExistingId_IsServedFromCache() throws Exception {
+    when(planetService.get(1L)).thenReturn(Optional.of(PLANET));
+
+    mockMvc.perform(get("/planets/{id}", 1)).andExpect(status().isOk());
+    mockMvc.perform(get("/planets/{id}", 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(PLANET));
+
+    verify(planetService, times(1)).get(1L);
+  }
+
+  @Test
+  public void listPlanets_AcceptingGzip_ReturnsCompressedPlanets() throws Exception {
+    List<Planet> planets = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      planets.addAll(PLANETS);
+    }
+    when(planetService.list(null, null)).thenReturn(planets);
+
+    mockMvc.perform(get("/planets")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                    .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+  }
+
+  @Test
+  public void listPlanets_RefusingGzip_ReturnsUncompressedPlanets() throws Exception {
+    List<Planet> planets = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      planets.addAll(PLANETS);
+    }
+    when(planetService.list(null, null)).thenReturn(planets);
+
+    mockMvc.perform(get("/planets")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate")
+                    .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(jsonPath("$", hasSize(planets.size())));
+  }
+
+  @Test
+  public void getPlanet_AcceptingCbor_ReturnsCborPlanet() throws Exception {
+    when(planetService.get(1L)).thenReturn(Optional.of(TATOOINE));
+
+    byte[] body = mockMvc.perform(get("/planets/{id}", 1)
+                    .accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(planetCodecs.get(MediaType.APPLICATION_CBOR).readPlanet(body)).isEqualTo(TATOOINE);
+  }
+
+  @Test
+  public void listPlanets_AcceptingProtobuf_ReturnsProtobufPlanets() throws Exception {
+    when(planetService.list(null, null)).thenReturn(PLANETS);
+
+    byte[] body = mockMvc.perform(get("/planets")
+                    .accept(PlanetCodecs.APPLICATION_PROTOBUF))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(PlanetCodecs.APPLICATION_PROTOBUF))
+            .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(planetCodecs.get(PlanetCodecs.APPLICATION_PROTOBUF).readList(body)).containsExactlyElementsOf(PLANETS);
+  }
+
+  @Test
+  public void listPlanets_AcceptingUnsupportedType_ReturnsNotAcceptable() throws Exception {
+    mockMvc.perform(get("/planets")
+                    .accept(MediaType.APPLICATION_XML))
+            .andExpect(status().isNotAcceptable());
+
+    verifyNoInteractions(planetService);
+  }
+
+  @Test
+  public void createPlanet_WithProtobufData_ReturnsCreated() throws Exception {
+    when(planetService.create(PLANET)).thenReturn(PLANET);
+    PlanetCodecs.Codec protobuf = planetCodecs.get(PlanetCodecs.APPLICATION_PROTOBUF);
+
+    byte[] body = mockMvc.perform(post("/planets")
+                    .content(protobuf.writePlanet(PLANET))
+                    .contentType(PlanetCodecs.APPLICATION_PROTOBUF)
+                    .accept(PlanetCodecs.APPLICATION_PROTOBUF))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(protobuf.readPlanet(body)).isEqualTo(PLANET);
+  }
+
+  @Test
+  public void getPlanet_WithVersion_ReturnsETag() throws Exception {
+    Planet planet = new Planet(1L, "name", "climate", "terrain");
+    planet.setVersion(3L);
+    when(planetService.get(1L)).thenReturn(Optional.of(planet));
+
+    mockMvc.perform(get("/planets/{id}", 1))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""));
+  }
+
+  @Test
+  public void patchPlanet_IfMatch_ReturnsNoContentWithNewETag() throws Exception {
+    PlanetPatch patch = new PlanetPatch(null, "frozen", null);
+    when(planetService.updateIfMatch(1L, 3L, patch)).thenReturn(4L);
+
+    mockMvc.perform(patch("/planets/{id}", 1)
+                    .content(objectMapper.writeValueAsString(patch))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_MATCH, "W/\"3\""))
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""));
+
+    verify(planetService, never()).update(any(), any());
+  }
+
+  @Test
+  public void patchPlanet_IfNotMatch_ReturnsPreconditionFailed() throws Exception {
+    PlanetPatch patch = new PlanetPatch(null, "frozen", null);
+    when(planetService.updateIfMatch(1L, 2L, patch)).thenThrow(new OptimisticLockingFailureException("stale"));
+
+    mockMvc.perform(patch("/planets/{id}", 1)
+                    .content(objectMapper.writeValueAsString(patch))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_MATCH, "\"2\""))
+            .andExpect(status().isPreconditionFailed());
+
+    mockMvc.perform(patch("/planets/{id}", 1)
+                    .content(objectMapper.writeValueAsString(patch))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_MATCH, "\"not-a-version\""))
+            .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  public void patchPlanet_WithInvalidData_ReturnsUnprocessableEntity() throws Exception {
+    mockMvc.perform(patch("/planets/{id}", 1)
+                    .content(objectMapper.writeValueAsString(new PlanetPatch("", null, null)))
+                    .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  public void putPlanet_WithoutIfMatch_ReturnsUpdatedPlanet() throws Exception {
+    Planet planet = new Planet(1L, "name", "climate", "terrain");
+    planet.setVersion(1L);
+    when(planetService.update(1L, PlanetPatch.of(PLANET))).thenReturn(Optional.of(planet));
+
+    mockMvc.perform(put("/planets/{id}", 1)
+                    .content(objectMapper.writeValueAsString(PLANET))
+                    .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+            .andExpect(jsonPath("$.name").value("name"));
+  }
+
+  @Test
+  public void putPlanet_NonExistingId_ReturnsNotFound() throws Exception {
+    when(planetService.update(2L, PlanetPatch.of(PLANET))).thenReturn(Optional.empty());
+
+    mockMvc.perform(put("/planets/{id}", 2)
+                    .content(objectMapper.writeValueAsString(PLANET))
+                    .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotFound());
+  }
+
   @Test
   public void removePlanet_WithExistingId_ReturnsNoContent() throws Exception {
     mockMvc.perform(delete("/planets/{id}", 1)
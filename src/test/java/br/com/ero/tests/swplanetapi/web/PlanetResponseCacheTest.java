@@ -0,0 +1,129 @@
+package br.com.ero.tests.swplanetapi.web;
+
+import br.com.ero.tests.swplanetapi.domain.PlanetChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.com.ero.tests.swplanetapi.common.PlanetConstants.PLANETS;
+import static br.com.ero.tests.swplanetapi.common.PlanetConstants.TATOOINE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlanetResponseCacheTest {
+
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+  private final PlanetCodecs planetCodecs = new PlanetCodecs(new Jackson2ObjectMapperBuilder());
+
+  private final PlanetResponseCache planetResponseCache = new PlanetResponseCache(planetCodecs, DataSize.ofMegabytes(1), 256);
+
+  @Test
+  public void getPlanet_ByExistingId_LoadsOnlyOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+
+    planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    Optional<EncodedResponse> sut = planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+
+    assertThat(loads).hasValue(1);
+    assertThat(sut).isNotEmpty();
+    assertThat(planetCodecs.get(JSON).readPlanet(sut.get().body())).isEqualTo(TATOOINE);
+  }
+
+  @Test
+  public void getPlanet_ByNonExistingId_IsNotCached() {
+    AtomicInteger loads = new AtomicInteger();
+
+    planetResponseCache.planet(2L, JSON, () -> load(loads, Optional.empty()));
+    Optional<EncodedResponse> sut = planetResponseCache.planet(2L, JSON, () -> load(loads, Optional.empty()));
+
+    assertThat(loads).hasValue(2);
+    assertThat(sut).isEmpty();
+  }
+
+  @Test
+  public void listPlanets_WithFiltersInDifferentCase_SharesEntry() {
+    AtomicInteger loads = new AtomicInteger();
+
+    planetResponseCache.list("Desert", "ARID", JSON, () -> load(loads, List.of(TATOOINE)));
+    planetResponseCache.list("desert", "arid", JSON, () -> load(loads, List.of(TATOOINE)));
+    planetResponseCache.list(null, "arid", JSON, () -> load(loads, List.of(TATOOINE)));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void getPlanet_InDifferentMediaTypes_KeepsSeparateEntries() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+
+    planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    Optional<EncodedResponse> sut = planetResponseCache.planet(1L, MediaType.APPLICATION_CBOR, () -> load(loads, Optional.of(TATOOINE)));
+
+    assertThat(loads).hasValue(2);
+    assertThat(sut.get().mediaType()).isEqualTo(MediaType.APPLICATION_CBOR);
+    assertThat(planetCodecs.get(MediaType.APPLICATION_CBOR).readPlanet(sut.get().body())).isEqualTo(TATOOINE);
+  }
+
+  @Test
+  public void planetChanged_InvalidatesPlanetAndLists() {
+    AtomicInteger loads = new AtomicInteger();
+    planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    planetResponseCache.list(null, null, JSON, () -> load(loads, PLANETS));
+
+    planetResponseCache.planet(1L, MediaType.APPLICATION_CBOR, () -> load(loads, Optional.of(TATOOINE)));
+
+    planetResponseCache.onPlanetChanged(new PlanetChangedEvent(1L));
+    planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    planetResponseCache.list(null, null, JSON, () -> load(loads, PLANETS));
+    planetResponseCache.planet(1L, MediaType.APPLICATION_CBOR, () -> load(loads, Optional.of(TATOOINE)));
+
+    assertThat(loads).hasValue(6);
+  }
+
+  @Test
+  public void planetChanged_DuringLoad_DoesNotKeepStaleEntry() {
+    AtomicInteger loads = new AtomicInteger();
+
+    planetResponseCache.planet(1L, JSON, () -> {
+      planetResponseCache.onPlanetChanged(new PlanetChangedEvent(1L));
+      return load(loads, Optional.of(TATOOINE));
+    });
+    planetResponseCache.planet(1L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void getPlanet_BeyondMaxSize_EvictsColdEntries() {
+    PlanetResponseCache smallCache = new PlanetResponseCache(planetCodecs, DataSize.ofBytes(1000), 256);
+    AtomicInteger loads = new AtomicInteger();
+
+    for (long id = 1; id <= 100; id++) {
+      smallCache.planet(id, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    }
+    smallCache.planet(1000L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+    smallCache.planet(1000L, JSON, () -> load(loads, Optional.of(TATOOINE)));
+
+    assertThat(loads).hasValue(101);
+  }
+
+  @Test
+  public void listPlanets_LargerThanMaxSize_IsNotKept() {
+    PlanetResponseCache smallCache = new PlanetResponseCache(planetCodecs, DataSize.ofBytes(100), 256);
+    AtomicInteger loads = new AtomicInteger();
+
+    smallCache.list(null, null, JSON, () -> load(loads, PLANETS));
+    smallCache.list(null, null, JSON, () -> load(loads, PLANETS));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  private static <T> T load(AtomicInteger loads, T value) {
+    loads.incrementAndGet();
+    return value;
+  }
+}